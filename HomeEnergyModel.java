@@ -6,7 +6,19 @@ import com.opencsv.exceptions.CsvValidationException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.lang.reflect.Field;
 import java.net.IDN;
 
@@ -31,7 +43,8 @@ public class HomeEnergyModel {
     private static final double INDOOR_TEMP = 21.1; 
     private static final double BASE_GAS_USAGE = 732.503; //kWh (~ 25 therm)
     private static final double FURNACE_EFF = 0.96; 
-    private double K_BASE_VENT = 142; // Changed to instance var. for home improvement comparison 
+    private static final double DEFAULT_K_BASE_VENT = 142;
+    private double K_BASE_VENT = DEFAULT_K_BASE_VENT; // Changed to instance var. for home improvement comparison 
     private static final double BASE_VENT_TEMP_DIFF = 21.1; 
     private static final double COP = 4.27; 
 
@@ -115,6 +128,86 @@ public class HomeEnergyModel {
         double costPercentageErrorOrChange; 
     }
 
+    // Monthly climate data shared between models (static so one library can serve every home)
+    // Terms that only depend on the climate are precomputed once when the dataset is loaded
+    public static class ClimateDataset {
+        public double[] avgTemp = new double[12];
+        public int[] numDays = new int[12];
+        public int[] avgNumDaylightHours = new int[12];
+        public double[] avgBeamFlux = new double[12];
+        public double[] avgDiffuseFlux = new double[12];
+
+        // (T_o - T_i) * 1/1000 kW/W * 24 h * n_days_in_month -> multiply by k (W/K) for kWh/month
+        public double[] tempDiffTerm = new double[12];
+        // |T_i - T_o| / base vent. temp. diff. -> multiply by base vent. factor for adjusted vent. factor
+        public double[] ventAdjustmentTerm = new double[12];
+        // E''_B,N * 1/1000 kW/W * n_daily_daylight_hours * n_days_in_month
+        public double[] beamTerm = new double[12];
+        // E''_DR * 1/1000 kW/W * n_daily_daylight_hours * n_days_in_month
+        public double[] diffuseTerm = new double[12];
+
+        // Returns a key that is equal for datasets with identical monthly data
+        private String contentKey() {
+            return Arrays.toString(avgTemp) + Arrays.toString(numDays) + Arrays.toString(avgNumDaylightHours) + 
+                Arrays.toString(avgBeamFlux) + Arrays.toString(avgDiffuseFlux);
+        }
+
+        private void precomputeTerms() {
+            for (int i = 0; i < 12; i++) {
+                tempDiffTerm[i] = (avgTemp[i] - INDOOR_TEMP) * W_TO_KW * 24 * numDays[i];
+                ventAdjustmentTerm[i] = Math.abs(INDOOR_TEMP - avgTemp[i]) / BASE_VENT_TEMP_DIFF;
+                beamTerm[i] = avgBeamFlux[i] * W_TO_KW * avgNumDaylightHours[i] * numDays[i];
+                diffuseTerm[i] = avgDiffuseFlux[i] * W_TO_KW * avgNumDaylightHours[i] * numDays[i];
+            }
+        }
+    }
+
+    // Named climates (e.g., weather years, future-climate projections); identical datasets are interned
+    // so that several names can share one dataset and it is only evaluated once per sweep
+    public static class ClimateLibrary {
+        private Map<String, ClimateDataset> climates = new LinkedHashMap<>();
+        private Map<String, ClimateDataset> internedDatasets = new HashMap<>();
+
+        // Parses only the specified file; climates already in the library are untouched
+        public void addClimate(String name, String monthlyDataFile) throws IOException {
+            if (climates.containsKey(name)) throw new IOException("Climate '" + name + "' is already in the library");
+            ClimateDataset dataset = readClimateDataset(monthlyDataFile);
+            String key = dataset.contentKey();
+            ClimateDataset interned = internedDatasets.get(key);
+            if (interned == null) {
+                dataset.precomputeTerms();
+                internedDatasets.put(key, dataset);
+                interned = dataset;
+            }
+            climates.put(name, interned);
+        }
+
+        public Map<String, ClimateDataset> getClimates() {
+            return climates;
+        }
+
+        public Collection<ClimateDataset> getUniqueDatasets() {
+            return internedDatasets.values();
+        }
+    }
+
+    public static class ClimateSweepResult {
+        String scenario;
+        String climate; // Holds the statistic name (e.g., "Median") in distribution summaries
+        double gasUsage;
+        double coolingElectricityUsage;
+        double gasCost;
+        double coolingElectricityCost;
+        double totalCost;
+    }
+
+    // Home-specific factors which, combined with precomputed climate terms, give monthly heat transfer
+    private static class ClimateIndependentFactors {
+        double totalUA; // Sum of all UA values (W/K)
+        double[] beamFactor = new double[12]; // Sum of A * cos(theta) * SHGC_theta * c_exposure over glazings (m^2)
+        double diffuseFactor; // Sum of A * SHGC_DR over glazings (m^2)
+    }
+
     // INITIALIZATION & FILE MANAGEMENT //
 
     public HomeEnergyModel(String monthlyDataFile, String buildingComponentFile, String shgcFile, String shgParameterFile, String gasBillsFile, String coolingBillsFile, double ventFactor) throws IOException {
@@ -146,8 +239,8 @@ public class HomeEnergyModel {
                 list.add(md);
             }
             reader.close();
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
         }
         return list;
     }
@@ -167,8 +260,8 @@ public class HomeEnergyModel {
                 list.add(bc);
             }
             reader.close();
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
         }
         return list;
     }
@@ -182,8 +275,8 @@ public class HomeEnergyModel {
                 map.put(Integer.parseInt(nextLine[0]), Double.parseDouble(nextLine[1]));
             }
             reader.close();   
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
         }
         return map;
     }
@@ -206,8 +299,8 @@ public class HomeEnergyModel {
                 }
             }
             reader.close();
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
         }
         return map;
     }
@@ -227,20 +320,91 @@ public class HomeEnergyModel {
                 list.add(bill);
             }
             reader.close();
-        } catch (IOException | CsvValidationException e) {
-            e.printStackTrace();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
         }
         return list;
     }
 
-    private void writeToCSV(String fileName, ArrayList<String> content) {
+    // Returns climate dataset read from a monthly data file (same format as 'Monthly Data.csv')
+    // Throws if the file cannot be read or does not contain exactly one row for each of months 1-12
+    private static ClimateDataset readClimateDataset(String fileName) throws IOException {
+        ClimateDataset dataset = new ClimateDataset();
+        boolean[] monthRead = new boolean[12];
+        try {
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            int lineNumber = 0;
+            while ((nextLine = reader.readNext()) != null) {
+                lineNumber++;
+                int i = Integer.parseInt(nextLine[0]) - 1;
+                if (i < 0 || i >= 12 || monthRead[i]) {
+                    reader.close();
+                    throw new IOException(fileName + ":" + lineNumber + ": month " + nextLine[0] + " is out of range or repeated");
+                }
+                monthRead[i] = true;
+                dataset.numDays[i] = Integer.parseInt(nextLine[2]);
+                dataset.avgTemp[i] = Double.parseDouble(nextLine[3]);
+                dataset.avgNumDaylightHours[i] = Integer.parseInt(nextLine[4]);
+                dataset.avgBeamFlux[i] = Double.parseDouble(nextLine[5]);
+                dataset.avgDiffuseFlux[i] = Double.parseDouble(nextLine[6]);
+            }
+            reader.close();
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
+        }
+        for (int i = 0; i < 12; i++) {
+            if (!monthRead[i]) throw new IOException(fileName + ": no data for month " + (i + 1));
+        }
+        return dataset;
+    }
+
+    // Returns climate dataset (with precomputed terms) holding the specified monthly data
+    private static ClimateDataset toClimateDataset(ArrayList<MonthlyDatum> monthlyData) {
+        ClimateDataset dataset = new ClimateDataset();
+        for (MonthlyDatum datum : monthlyData) {
+            int i = datum.month - 1;
+            dataset.numDays[i] = datum.numDays;
+            dataset.avgTemp[i] = datum.avgTemp;
+            dataset.avgNumDaylightHours[i] = datum.avgNumDaylightHours;
+            dataset.avgBeamFlux[i] = datum.avgBeamFlux;
+            dataset.avgDiffuseFlux[i] = datum.avgDiffuseFlux;
+        }
+        dataset.precomputeTerms();
+        return dataset;
+    }
+
+    // Returns climate library built from an index file where each line is: climate name, monthly data file
+    // Blank lines and lines starting with '#' are ignored; short lines and repeated climate names are errors
+    public static ClimateLibrary readClimateLibrary(String fileName) throws IOException {
+        ClimateLibrary library = new ClimateLibrary();
+        try (CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build()) {
+            String[] nextLine;
+            int lineNumber = 0;
+            while ((nextLine = reader.readNext()) != null) {
+                lineNumber++;
+                String name = nextLine[0].trim();
+                if ((nextLine.length == 1 && name.isEmpty()) || name.startsWith("#")) continue;
+                if (nextLine.length < 2) {
+                    throw new IOException(fileName + ":" + lineNumber + ": expected climate name and monthly data file");
+                }
+                if (library.getClimates().containsKey(nextLine[0])) {
+                    throw new IOException(fileName + ":" + lineNumber + ": climate '" + nextLine[0] + "' is listed more than once");
+                }
+                library.addClimate(nextLine[0], nextLine[1]);
+            }
+        } catch (CsvValidationException e) {
+            throw new IOException(fileName + ": " + e.getMessage(), e);
+        }
+        return library;
+    }
+
+    private static void writeToCSV(String fileName, ArrayList<String> content) throws IOException {
         try (CSVWriter writer = new CSVWriter(new FileWriter(fileName))) {
             for (String line : content) {
                 String[] entries = line.split(",");
                 writer.writeNext(entries);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
@@ -347,22 +511,20 @@ public class HomeEnergyModel {
         // Create MonthlySnapshot lists to hold computed usage for each month
         ArrayList<MonthlySnapshot> monthlyGasUsage = new ArrayList<>(); 
         ArrayList<MonthlySnapshot> monthlyCoolingElectricityUsage = new ArrayList<>(); 
+
+        // Compute heat transfer and usage for the model's own monthly data by the same rules as the climate sweep
+        double[] monthlyHeatLoss = new double[12], monthlyHeatGain = new double[12], monthlyGas = new double[12], monthlyCooling = new double[12];
+        computeMonthlyClimateUsage(toClimateDataset(monthlyData), computeClimateIndependentFactors(), K_BASE_VENT, 
+            monthlyHeatLoss, monthlyHeatGain, monthlyGas, monthlyCooling);
         
         // For each month...
         for (int i = 0; i < 12; i++) {
             
-            double tempDepHT, solarHeatGain, heatLoss, heatGain, gasUsage, coolingElectricityUsage;
-            tempDepHT = computeMonthlyTempDepHeatTransfer(i + 1);
-            solarHeatGain = computeMonthlySHG(i + 1);
-            heatLoss = 0; 
-            heatGain = solarHeatGain;
-            gasUsage = BASE_GAS_USAGE;
-            coolingElectricityUsage = 0; 
-
-            if (tempDepHT < 0) heatLoss = tempDepHT * -1; // Heat loss occurs
-            else heatGain += tempDepHT; // Only heat gain occurs
-            if (heatLoss > heatGain) gasUsage += (heatLoss - heatGain) / FURNACE_EFF; // Furnace is only ON if net heat loss > 0
-            else coolingElectricityUsage = (heatGain - heatLoss) / COP; // AC is only ON if net heat gain > 0 
+            double heatLoss, heatGain, gasUsage, coolingElectricityUsage;
+            heatLoss = monthlyHeatLoss[i]; 
+            heatGain = monthlyHeatGain[i];
+            gasUsage = monthlyGas[i];
+            coolingElectricityUsage = monthlyCooling[i]; 
 
             MonthlySnapshot gasSnapshot = new MonthlySnapshot(); 
             MonthlySnapshot coolingElectricitySnapshot = new MonthlySnapshot();
@@ -411,10 +573,551 @@ public class HomeEnergyModel {
         return modelledBills;
     }
     
+    // CLIMATE SWEEP //
+
+    // Returns the factors of this home's heat transfer that do not depend on the climate
+    private ClimateIndependentFactors computeClimateIndependentFactors() {
+        ClimateIndependentFactors factors = new ClimateIndependentFactors();
+
+        for (BuildingComponent bComponent : buildingComponents) {
+            factors.totalUA += bComponent.transmittance * bComponent.area;
+            if (!bComponent.type.equals(GLAZING)) continue;
+
+            // Diffuse SHGC mapped to theta = -1
+            factors.diffuseFactor += bComponent.area * solarHeatGainCoefficients.get(-1);
+            for (int i = 0; i < 12; i++) {
+                SHGParameter angleAndExposure = solarHeatGainParams.get(i + 1).get(bComponent.orientation);
+                factors.beamFactor[i] += bComponent.area * Math.cos(Math.toRadians(angleAndExposure.theta)) * 
+                    solarHeatGainCoefficients.get(angleAndExposure.theta) * angleAndExposure.percentageExposure;
+            }
+        }
+        return factors;
+    }
+
+    // Fills monthly heat loss, heat gain, gas usage and cooling electricity usage for specified climate (kWh/month)
+    // Shared by computeAnnualUsage, the climate sweep and the portfolio store
+    private static void computeMonthlyClimateUsage(ClimateDataset climate, ClimateIndependentFactors factors, double ventFactor, 
+            double[] monthlyHeatLoss, double[] monthlyHeatGain, double[] monthlyGasUsage, double[] monthlyCoolingElectricityUsage) {
+        for (int i = 0; i < 12; i++) {
+            // Temp. dependant heat transfer (conduction and ventilation); if positive: heat gain, else: heat loss
+            double k = factors.totalUA + ventFactor * climate.ventAdjustmentTerm[i];
+            double tempDepHT = k * climate.tempDiffTerm[i];
+            double heatLoss = 0;
+            // Solar heat gain
+            double heatGain = factors.beamFactor[i] * climate.beamTerm[i] + factors.diffuseFactor * climate.diffuseTerm[i];
+
+            monthlyGasUsage[i] = BASE_GAS_USAGE;
+            monthlyCoolingElectricityUsage[i] = 0;
+            if (tempDepHT < 0) heatLoss = tempDepHT * -1; // Heat loss occurs
+            else heatGain += tempDepHT; // Only heat gain occurs
+            if (heatLoss > heatGain) monthlyGasUsage[i] += (heatLoss - heatGain) / FURNACE_EFF; // Furnace is only ON if net heat loss > 0
+            else monthlyCoolingElectricityUsage[i] = (heatGain - heatLoss) / COP; // AC is only ON if net heat gain > 0
+
+            monthlyHeatLoss[i] = heatLoss;
+            monthlyHeatGain[i] = heatGain;
+        }
+    }
+
+    // Returns annual usage and cost of this home for specified climate
+    private ClimateSweepResult evaluateClimate(ClimateDataset climate, ClimateIndependentFactors factors) {
+        double[] monthlyGasUsage = new double[12];
+        double[] monthlyCoolingElectricityUsage = new double[12];
+        computeMonthlyClimateUsage(climate, factors, K_BASE_VENT, new double[12], new double[12], monthlyGasUsage, monthlyCoolingElectricityUsage);
+
+        // Bill usage and cost using actual rates (see generateModelledBills)
+        ClimateSweepResult result = new ClimateSweepResult();
+        for (Bill bill : actualGasBills) {
+            double usage = monthlyGasUsage[bill.startMonth - 1] / 2 + monthlyGasUsage[bill.endMonth - 1] / 2;
+            result.gasUsage += usage;
+            result.gasCost += bill.rate * usage;
+        }
+        for (Bill bill : actualCoolingElectricityBills) {
+            double usage = monthlyCoolingElectricityUsage[bill.startMonth - 1] / 2 + monthlyCoolingElectricityUsage[bill.endMonth - 1] / 2;
+            result.coolingElectricityUsage += usage;
+            result.coolingElectricityCost += bill.rate * usage;
+        }
+        result.totalCost = result.gasCost + result.coolingElectricityCost;
+        return result;
+    }
+
+    // Returns annual usage and cost of every scenario (home) in every climate of the library
+    // Each unique climate dataset is evaluated once per scenario; evaluations run in parallel
+    public static ArrayList<ClimateSweepResult> sweepClimates(ClimateLibrary library, Map<String, HomeEnergyModel> scenarios) {
+        ArrayList<ClimateSweepResult> results = new ArrayList<>();
+
+        for (Map.Entry<String, HomeEnergyModel> scenario : scenarios.entrySet()) {
+            HomeEnergyModel model = scenario.getValue();
+            ClimateIndependentFactors factors = model.computeClimateIndependentFactors();
+
+            Map<ClimateDataset, ClimateSweepResult> datasetResults = library.getUniqueDatasets().parallelStream()
+                .collect(Collectors.toConcurrentMap(climate -> climate, climate -> model.evaluateClimate(climate, factors)));
+
+            for (Map.Entry<String, ClimateDataset> climate : library.getClimates().entrySet()) {
+                ClimateSweepResult datasetResult = datasetResults.get(climate.getValue());
+                ClimateSweepResult result = new ClimateSweepResult();
+                result.scenario = scenario.getKey();
+                result.climate = climate.getKey();
+                result.gasUsage = datasetResult.gasUsage;
+                result.coolingElectricityUsage = datasetResult.coolingElectricityUsage;
+                result.gasCost = datasetResult.gasCost;
+                result.coolingElectricityCost = datasetResult.coolingElectricityCost;
+                result.totalCost = datasetResult.totalCost;
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    // Returns distribution (min, P10, median, P90, max, mean) of each result column for specified scenario
+    private static ArrayList<ClimateSweepResult> summarizeClimateSweep(String scenario, ArrayList<ClimateSweepResult> results) {
+        ArrayList<ClimateSweepResult> scenarioResults = new ArrayList<>();
+        for (ClimateSweepResult result : results) {
+            if (result.scenario.equals(scenario)) scenarioResults.add(result);
+        }
+
+        int n = scenarioResults.size();
+        double[][] columns = new double[5][n];
+        for (int i = 0; i < n; i++) {
+            ClimateSweepResult result = scenarioResults.get(i);
+            columns[0][i] = result.gasUsage;
+            columns[1][i] = result.coolingElectricityUsage;
+            columns[2][i] = result.gasCost;
+            columns[3][i] = result.coolingElectricityCost;
+            columns[4][i] = result.totalCost;
+        }
+        for (double[] column : columns) Arrays.sort(column);
+
+        String[] statistics = {"Min", "P10", "Median", "P90", "Max", "Mean"};
+        ArrayList<ClimateSweepResult> summary = new ArrayList<>();
+        for (String statistic : statistics) {
+            double[] values = new double[5];
+            for (int c = 0; c < 5; c++) {
+                double[] column = columns[c];
+                switch (statistic) {
+                    case "Min": values[c] = column[0]; break;
+                    case "P10": values[c] = column[(int) Math.ceil(0.1 * n) - 1]; break; // Nearest-rank percentiles
+                    case "Median": values[c] = column[(int) Math.ceil(0.5 * n) - 1]; break;
+                    case "P90": values[c] = column[(int) Math.ceil(0.9 * n) - 1]; break;
+                    case "Max": values[c] = column[n - 1]; break;
+                    default: values[c] = Arrays.stream(column).sum() / n;
+                }
+            }
+            ClimateSweepResult row = new ClimateSweepResult();
+            row.scenario = scenario;
+            row.climate = statistic;
+            row.gasUsage = values[0];
+            row.coolingElectricityUsage = values[1];
+            row.gasCost = values[2];
+            row.coolingElectricityCost = values[3];
+            row.totalCost = values[4];
+            summary.add(row);
+        }
+        return summary;
+    }
+
+    // PORTFOLIO STORE //
+
+    // Compact off-heap store of the parameters of many homes (building components, SHGC tables and bills),
+    // evaluated directly without creating BuildingComponent or Bill objects
+    // Component types and orientations are dictionary-encoded and every column has a fixed width, so the
+    // store file written on load can be reopened instantly by memory mapping it
+    // SHG parameters are shared by all homes in the portfolio; component names are not stored
+    public static class PortfolioStore {
+        private static final int MAGIC = 0x48454D50; // "HEMP"
+        private static final int VERSION = 1;
+        private static final int HEADER_SIZE = 64;
+        private static final int NO_CODE = -1;
+
+        private ByteBuffer buffer; // Only absolute accessors or duplicates are used, so homes can be read in parallel
+        private int numHomes, numComponents, numShgcs, numBills, dictionarySize;
+        private String[] dictionary; // Code -> type or orientation (small, so kept on heap)
+        private short glazingCode; // Code of GLAZING type (NO_CODE if no component is a glazing)
+
+        // Column offsets (bytes from start of buffer)
+        private int homeComponentStart, homeComponentCount, homeShgcStart, homeShgcCount, homeGasBillStart, homeGasBillCount,
+            homeCoolingBillStart, homeCoolingBillCount, homeNameOffset, homeNameLength, homeVentFactor;
+        private int componentType, componentOrientation, componentArea, componentTransmittance;
+        private int shgcTheta, shgcValue;
+        private int billStartMonth, billEndMonth, billUsage, billCost, billRate;
+        private int shgParamTheta, shgParamExposure; // 12 months x dictionary size
+        private int dictionaryOffset, namesOffset, totalSize;
+
+        private PortfolioStore() {}
+
+        public int getNumHomes() {
+            return numHomes;
+        }
+
+        // Returns store loaded from an index file where each line is:
+        // home name, building components file, SHGCs file, gas bills file, cooling bills file, vent. factor (-1 for default)
+        // The columns are written directly into the specified (memory-mapped) store file rather than staged on the heap,
+        // so the index is read twice: once to size the columns and complete the dictionary, once to fill the columns
+        public static PortfolioStore readFromCSV(String indexFile, String shgParameterFile, String storeFile) throws IOException {
+            PortfolioStore store = new PortfolioStore();
+            Map<String, Integer> codes = new LinkedHashMap<>();
+            Map<String, Integer> rowCounts = new HashMap<>(); // File -> number of rows, so shared files are only counted once
+            ArrayList<String[]> shgParameters = new ArrayList<>();
+            Map<String, boolean[]> shgParameterMonths = new HashMap<>(); // Orientation -> months with SHG parameters
+            long nameBytes = 0;
+
+            try {
+                CSVReader reader = new CSVReaderBuilder(new FileReader(shgParameterFile)).build();
+                String[] nextLine;
+                while ((nextLine = reader.readNext()) != null) {
+                    encode(codes, nextLine[1]);
+                    shgParameters.add(nextLine);
+                    boolean[] months = shgParameterMonths.computeIfAbsent(nextLine[1], o -> new boolean[12]);
+                    for (String month : nextLine[0].split(",")) months[Integer.parseInt(month) - 1] = true;
+                }
+                reader.close();
+
+                reader = new CSVReaderBuilder(new FileReader(indexFile)).build();
+                while ((nextLine = reader.readNext()) != null) {
+                    store.numHomes++;
+                    store.numComponents += countRows(nextLine[1], rowCounts, codes, shgParameterMonths);
+                    store.numShgcs += countRows(nextLine[2], rowCounts, null, null);
+                    store.numBills += countRows(nextLine[3], rowCounts, null, null) + countRows(nextLine[4], rowCounts, null, null);
+                    nameBytes += nextLine[0].getBytes(StandardCharsets.UTF_8).length;
+                }
+                reader.close();
+            } catch (CsvValidationException e) {
+                throw new IOException(e);
+            }
+
+            store.dictionary = codes.keySet().toArray(new String[0]);
+            store.dictionarySize = store.dictionary.length;
+            store.glazingCode = (short) Arrays.asList(store.dictionary).indexOf(GLAZING);
+            byte[] dictionaryBytes = String.join("\n", store.dictionary).getBytes(StandardCharsets.UTF_8);
+            store.computeLayout(dictionaryBytes.length, nameBytes);
+
+            // The store is built in a temporary file which only replaces the store file once it is complete
+            Path outputFile = Paths.get(storeFile).toAbsolutePath();
+            Path tempFile = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, 
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, store.totalSize);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                store.buffer = buffer;
+
+                buffer.duplicate().position(store.dictionaryOffset).put(dictionaryBytes);
+
+                // Orientations without SHG parameters for a month have NaN exposure (never read for glazings; see countRows)
+                for (int i = 0; i < 12 * store.dictionarySize; i++) {
+                    buffer.putDouble(store.shgParamExposure + i * 8, Double.NaN);
+                }
+                for (String[] shgParameter : shgParameters) {
+                    for (String month : shgParameter[0].split(",")) {
+                        int slot = (Integer.parseInt(month) - 1) * store.dictionarySize + codes.get(shgParameter[1]);
+                        buffer.putInt(store.shgParamTheta + slot * 4, Integer.parseInt(shgParameter[2]));
+                        buffer.putDouble(store.shgParamExposure + slot * 8, Double.parseDouble(shgParameter[3]) / 100);
+                    }
+                }
+
+                int home = 0, component = 0, shgc = 0, bill = 0, nameOffset = 0;
+                CSVReader reader = new CSVReaderBuilder(new FileReader(indexFile)).build();
+                String[] nextLine;
+                while ((nextLine = reader.readNext()) != null) {
+                    byte[] name = nextLine[0].getBytes(StandardCharsets.UTF_8);
+                    buffer.duplicate().position(store.namesOffset + nameOffset).put(name);
+                    buffer.putInt(store.homeNameOffset + home * 4, nameOffset);
+                    buffer.putInt(store.homeNameLength + home * 4, name.length);
+                    nameOffset += name.length;
+
+                    buffer.putInt(store.homeComponentStart + home * 4, component);
+                    component = store.putComponents(nextLine[1], component, codes);
+                    buffer.putInt(store.homeComponentCount + home * 4, component - buffer.getInt(store.homeComponentStart + home * 4));
+                    buffer.putInt(store.homeShgcStart + home * 4, shgc);
+                    shgc = store.putSHGCs(nextLine[2], shgc);
+                    buffer.putInt(store.homeShgcCount + home * 4, shgc - buffer.getInt(store.homeShgcStart + home * 4));
+                    buffer.putInt(store.homeGasBillStart + home * 4, bill);
+                    bill = store.putBills(nextLine[3], bill);
+                    buffer.putInt(store.homeGasBillCount + home * 4, bill - buffer.getInt(store.homeGasBillStart + home * 4));
+                    buffer.putInt(store.homeCoolingBillStart + home * 4, bill);
+                    bill = store.putBills(nextLine[4], bill);
+                    buffer.putInt(store.homeCoolingBillCount + home * 4, bill - buffer.getInt(store.homeCoolingBillStart + home * 4));
+                    buffer.putDouble(store.homeVentFactor + home * 8, Double.parseDouble(nextLine[5]));
+                    home++;
+                }
+                reader.close();
+
+                // Header is written last so that an incomplete store is never recognized as one
+                buffer.putInt(4, VERSION).putInt(8, store.numHomes).putInt(12, store.numComponents)
+                    .putInt(16, store.numShgcs).putInt(20, store.numBills).putInt(24, store.dictionarySize)
+                    .putInt(28, dictionaryBytes.length).putInt(32, (int) nameBytes).putInt(0, MAGIC);
+                buffer.force();
+            } catch (CsvValidationException e) {
+                Files.deleteIfExists(tempFile);
+                throw new IOException(e);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+            Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+            return store;
+        }
+
+        // Returns number of rows in specified file (encoding component types and orientations if codes != null)
+        // Throws if a glazing has no orientation, or its orientation lacks SHG parameters for any month
+        private static int countRows(String fileName, Map<String, Integer> rowCounts, Map<String, Integer> codes, 
+                Map<String, boolean[]> shgParameterMonths) throws IOException, CsvValidationException {
+            Integer count = rowCounts.get(fileName);
+            if (count != null) return count;
+
+            count = 0;
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            while ((nextLine = reader.readNext()) != null) {
+                count++;
+                if (codes != null) {
+                    if (nextLine[1].equals(GLAZING) && nextLine[2].isEmpty()) {
+                        reader.close();
+                        throw new IOException(fileName + ":" + count + ": glazing '" + nextLine[0] + "' has no orientation");
+                    }
+                    if (nextLine[1].equals(GLAZING)) {
+                        boolean[] months = shgParameterMonths.getOrDefault(nextLine[2], new boolean[12]);
+                        for (int i = 0; i < 12; i++) {
+                            if (months[i]) continue;
+                            reader.close();
+                            throw new IOException(fileName + ":" + count + ": no SHG parameters for orientation '" + nextLine[2] + "' in month " + (i + 1));
+                        }
+                    }
+                    encode(codes, nextLine[1]);
+                    if (!nextLine[2].isEmpty()) encode(codes, nextLine[2]);
+                }
+            }
+            reader.close();
+            rowCounts.put(fileName, count);
+            return count;
+        }
+
+        // Writes building components from specified file starting at specified row and returns the next free row
+        private int putComponents(String fileName, int row, Map<String, Integer> codes) throws IOException, CsvValidationException {
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            while ((nextLine = reader.readNext()) != null) {
+                buffer.putShort(componentType + row * 2, (short) (int) codes.get(nextLine[1]));
+                buffer.putShort(componentOrientation + row * 2, (short) (nextLine[2].isEmpty() ? NO_CODE : codes.get(nextLine[2])));
+                buffer.putDouble(componentArea + row * 8, Double.parseDouble(nextLine[3]));
+                buffer.putDouble(componentTransmittance + row * 8, Double.parseDouble(nextLine[4]));
+                row++;
+            }
+            reader.close();
+            return row;
+        }
+
+        // Writes SHGCs from specified file starting at specified row and returns the next free row
+        private int putSHGCs(String fileName, int row) throws IOException, CsvValidationException {
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            while ((nextLine = reader.readNext()) != null) {
+                buffer.putInt(shgcTheta + row * 4, Integer.parseInt(nextLine[0]));
+                buffer.putDouble(shgcValue + row * 8, Double.parseDouble(nextLine[1]));
+                row++;
+            }
+            reader.close();
+            return row;
+        }
+
+        // Writes bills from specified file starting at specified row and returns the next free row
+        private int putBills(String fileName, int row) throws IOException, CsvValidationException {
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            while ((nextLine = reader.readNext()) != null) {
+                buffer.put(billStartMonth + row, (byte) Integer.parseInt(nextLine[0]));
+                buffer.put(billEndMonth + row, (byte) Integer.parseInt(nextLine[1]));
+                buffer.putDouble(billUsage + row * 8, Double.parseDouble(nextLine[2]));
+                buffer.putDouble(billCost + row * 8, Double.parseDouble(nextLine[3]));
+                buffer.putDouble(billRate + row * 8, Double.parseDouble(nextLine[4]));
+                row++;
+            }
+            reader.close();
+            return row;
+        }
+
+        private static int encode(Map<String, Integer> codes, String value) {
+            return codes.computeIfAbsent(value, v -> codes.size());
+        }
+
+        // Lays out columns one after another, each aligned to 8 bytes
+        // Buffers are int-indexed, so a store is limited to 2 GB (roughly a million homes with a year of bills)
+        private void computeLayout(int dictionaryBytes, long nameBytes) throws IOException {
+            long offset = HEADER_SIZE;
+            homeComponentStart = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeComponentCount = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeShgcStart = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeShgcCount = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeGasBillStart = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeGasBillCount = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeCoolingBillStart = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeCoolingBillCount = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeNameOffset = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeNameLength = (int) offset; offset = align(offset + (long) numHomes * 4);
+            homeVentFactor = (int) offset; offset = align(offset + (long) numHomes * 8);
+            componentType = (int) offset; offset = align(offset + (long) numComponents * 2);
+            componentOrientation = (int) offset; offset = align(offset + (long) numComponents * 2);
+            componentArea = (int) offset; offset = align(offset + (long) numComponents * 8);
+            componentTransmittance = (int) offset; offset = align(offset + (long) numComponents * 8);
+            shgcTheta = (int) offset; offset = align(offset + (long) numShgcs * 4);
+            shgcValue = (int) offset; offset = align(offset + (long) numShgcs * 8);
+            billStartMonth = (int) offset; offset = align(offset + (long) numBills);
+            billEndMonth = (int) offset; offset = align(offset + (long) numBills);
+            billUsage = (int) offset; offset = align(offset + (long) numBills * 8);
+            billCost = (int) offset; offset = align(offset + (long) numBills * 8);
+            billRate = (int) offset; offset = align(offset + (long) numBills * 8);
+            shgParamTheta = (int) offset; offset = align(offset + 12L * dictionarySize * 4);
+            shgParamExposure = (int) offset; offset = align(offset + 12L * dictionarySize * 8);
+            dictionaryOffset = (int) offset; offset += dictionaryBytes;
+            namesOffset = (int) offset; offset += nameBytes;
+            if (offset > Integer.MAX_VALUE) throw new IOException("Portfolio store would exceed 2 GB (" + offset + " bytes)");
+            totalSize = (int) offset;
+        }
+
+        private static long align(long offset) {
+            return (offset + 7) & ~7;
+        }
+
+        // Returns store memory mapped from a file written by readFromCSV (columns are read in place, not copied)
+        public static PortfolioStore open(String fileName) throws IOException {
+            PortfolioStore store = new PortfolioStore();
+            try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+                store.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            ByteBuffer buffer = store.buffer;
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(fileName + " is not a portfolio store (or was written by another version)");
+            }
+            store.numHomes = buffer.getInt(8);
+            store.numComponents = buffer.getInt(12);
+            store.numShgcs = buffer.getInt(16);
+            store.numBills = buffer.getInt(20);
+            store.dictionarySize = buffer.getInt(24);
+            store.computeLayout(buffer.getInt(28), buffer.getInt(32));
+            if (buffer.capacity() < store.totalSize) {
+                throw new IOException(fileName + " is truncated (" + buffer.capacity() + " of " + store.totalSize + " bytes)");
+            }
+
+            byte[] dictionaryBytes = new byte[buffer.getInt(28)];
+            buffer.duplicate().position(store.dictionaryOffset).get(dictionaryBytes);
+            store.dictionary = store.dictionarySize == 0 ? new String[0] : new String(dictionaryBytes, StandardCharsets.UTF_8).split("\n", -1);
+            store.glazingCode = (short) Arrays.asList(store.dictionary).indexOf(GLAZING);
+            return store;
+        }
+
+        public String getHomeName(int home) {
+            byte[] nameBytes = new byte[buffer.getInt(homeNameLength + home * 4)];
+            buffer.duplicate().position(namesOffset + buffer.getInt(homeNameOffset + home * 4)).get(nameBytes);
+            return new String(nameBytes, StandardCharsets.UTF_8);
+        }
+
+        // Returns SHGC for specified home and angle of incidence (theta = -1 for diffuse)
+        private double getSHGC(int home, int theta) {
+            int start = buffer.getInt(homeShgcStart + home * 4);
+            int end = start + buffer.getInt(homeShgcCount + home * 4);
+            for (int i = start; i < end; i++) {
+                if (buffer.getInt(shgcTheta + i * 4) == theta) return buffer.getDouble(shgcValue + i * 8);
+            }
+            throw new IllegalStateException("No SHGC for theta = " + theta + " for home " + getHomeName(home));
+        }
+
+        // Same as HomeEnergyModel.computeClimateIndependentFactors, read directly from the columns
+        private ClimateIndependentFactors computeClimateIndependentFactors(int home) {
+            ClimateIndependentFactors factors = new ClimateIndependentFactors();
+            int start = buffer.getInt(homeComponentStart + home * 4);
+            int end = start + buffer.getInt(homeComponentCount + home * 4);
+            double diffuseSHGC = Double.NaN; // Only looked up if the home has glazings
+
+            for (int i = start; i < end; i++) {
+                double area = buffer.getDouble(componentArea + i * 8);
+                factors.totalUA += buffer.getDouble(componentTransmittance + i * 8) * area;
+                if (buffer.getShort(componentType + i * 2) != glazingCode) continue;
+
+                if (Double.isNaN(diffuseSHGC)) diffuseSHGC = getSHGC(home, -1);
+                factors.diffuseFactor += area * diffuseSHGC;
+                int orientation = buffer.getShort(componentOrientation + i * 2);
+                for (int m = 0; m < 12; m++) {
+                    int slot = m * dictionarySize + orientation;
+                    int theta = buffer.getInt(shgParamTheta + slot * 4);
+                    factors.beamFactor[m] += area * Math.cos(Math.toRadians(theta)) * getSHGC(home, theta) * 
+                        buffer.getDouble(shgParamExposure + slot * 8);
+                }
+            }
+            return factors;
+        }
+
+        // Returns annual usage and cost of specified home for specified climate (see HomeEnergyModel.evaluateClimate)
+        private ClimateSweepResult evaluateClimate(int home, ClimateDataset climate, ClimateIndependentFactors factors) {
+            double[] monthlyGasUsage = new double[12];
+            double[] monthlyCoolingElectricityUsage = new double[12];
+            double ventFactor = buffer.getDouble(homeVentFactor + home * 8);
+            computeMonthlyClimateUsage(climate, factors, ventFactor != -1 ? ventFactor : DEFAULT_K_BASE_VENT, 
+                new double[12], new double[12], monthlyGasUsage, monthlyCoolingElectricityUsage);
+
+            ClimateSweepResult result = new ClimateSweepResult();
+            int start = buffer.getInt(homeGasBillStart + home * 4);
+            int end = start + buffer.getInt(homeGasBillCount + home * 4);
+            for (int i = start; i < end; i++) {
+                double usage = monthlyGasUsage[buffer.get(billStartMonth + i) - 1] / 2 + monthlyGasUsage[buffer.get(billEndMonth + i) - 1] / 2;
+                result.gasUsage += usage;
+                result.gasCost += buffer.getDouble(billRate + i * 8) * usage;
+            }
+            start = buffer.getInt(homeCoolingBillStart + home * 4);
+            end = start + buffer.getInt(homeCoolingBillCount + home * 4);
+            for (int i = start; i < end; i++) {
+                double usage = monthlyCoolingElectricityUsage[buffer.get(billStartMonth + i) - 1] / 2 + 
+                    monthlyCoolingElectricityUsage[buffer.get(billEndMonth + i) - 1] / 2;
+                result.coolingElectricityUsage += usage;
+                result.coolingElectricityCost += buffer.getDouble(billRate + i * 8) * usage;
+            }
+            result.totalCost = result.gasCost + result.coolingElectricityCost;
+            return result;
+        }
+
+        // Returns distribution of annual usage and cost of specified home across all climates in the library
+        private ArrayList<ClimateSweepResult> summarizeClimateSweep(int home, ClimateLibrary library) {
+            String homeName = getHomeName(home);
+            ClimateIndependentFactors factors = computeClimateIndependentFactors(home);
+            Map<ClimateDataset, ClimateSweepResult> datasetResults = new HashMap<>();
+            for (ClimateDataset climate : library.getUniqueDatasets()) {
+                datasetResults.put(climate, evaluateClimate(home, climate, factors));
+            }
+
+            ArrayList<ClimateSweepResult> results = new ArrayList<>();
+            for (ClimateDataset climate : library.getClimates().values()) {
+                ClimateSweepResult result = datasetResults.get(climate);
+                result.scenario = homeName;
+                results.add(result);
+            }
+            return HomeEnergyModel.summarizeClimateSweep(homeName, results);
+        }
+    }
+
+    // Writes distribution of annual usage and cost of every home in the store across all climates in the library
+    // to CSV file; homes are evaluated in parallel and rows are streamed to the file in home order
+    public static void writePortfolioClimateSweepToCSV(String fileName, PortfolioStore store, ClimateLibrary library) throws IOException {
+        String header = "Home,Statistic,Annual Gas Usage (kWh),Annual Cooling Electricity Usage (kWh),Annual Gas Cost ($USD)," + 
+            "Annual Cooling Electricity Cost ($USD),Annual Total Cost ($USD)";
+
+        // Rows are written to a temporary file which only replaces the output file once every home succeeded
+        Path outputFile = Paths.get(fileName).toAbsolutePath();
+        Path tempFile = outputFile.resolveSibling(outputFile.getFileName() + ".tmp");
+        try (CSVWriter writer = new CSVWriter(new FileWriter(tempFile.toFile()))) {
+            writer.writeNext(header.split(","));
+            IntStream.range(0, store.getNumHomes()).parallel()
+                .mapToObj(home -> objListToCSVStringList(null, null, store.summarizeClimateSweep(home, library)))
+                .forEachOrdered(lines -> {
+                    for (String line : lines) writer.writeNext(line.split(","));
+                });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        Files.move(tempFile, outputFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
     // OUTPUT & COMPARISON TABULATION //
 
     // Writes modlled usage data for either gas or cooling electricity to CSV file
-    public void writeModelledUsageToCSV(String flag, String fileName) {
+    public void writeModelledUsageToCSV(String flag, String fileName) throws IOException {
         String usageType;
         ArrayList<MonthlySnapshot> modelledUsage; 
     
@@ -432,7 +1135,7 @@ public class HomeEnergyModel {
     }
 
     // Writes proportions of heat transfer caused by conduction, ventilation and solar heat gain each month to CSV file
-    public void writeHeatTransferBreakdownToCSV(String fileName) {
+    public void writeHeatTransferBreakdownToCSV(String fileName) throws IOException {
         String heatLossHeader = "Month, Conduction (%), Ventilation (%), Heat Loss (kWh)";
         String heatGainHeader = "Month, Conduction (%), Ventilation (%), Solar Heat Gain (%), Heat Gain (kWh)";
 
@@ -476,8 +1179,34 @@ public class HomeEnergyModel {
         writeToCSV(fileName, heatLossBreakdown);
     }
 
+    // Sweeps every scenario across every climate in the library and writes per-climate results,
+    // followed by the distribution of annual usage and cost for each scenario, to CSV file
+    public static void writeClimateSweepToCSV(String fileName, ClimateLibrary library, Map<String, HomeEnergyModel> scenarios) throws IOException {
+        String columns = "Annual Gas Usage (kWh),Annual Cooling Electricity Usage (kWh),Annual Gas Cost ($USD)," + 
+            "Annual Cooling Electricity Cost ($USD),Annual Total Cost ($USD)";
+        String resultHeader = "Scenario,Climate," + columns;
+        String summaryHeader = "Scenario,Statistic," + columns;
+
+        ArrayList<ClimateSweepResult> results = sweepClimates(library, scenarios);
+        if (results.isEmpty()) {
+            System.out.println("Error: climate sweep produced no results!");
+            return;
+        }
+
+        ArrayList<ClimateSweepResult> summary = new ArrayList<>();
+        for (String scenario : scenarios.keySet()) {
+            summary.addAll(summarizeClimateSweep(scenario, results));
+        }
+
+        ArrayList<String> content = objListToCSVStringList(resultHeader, null, results);
+        content.add("");
+        content.addAll(objListToCSVStringList(summaryHeader, null, summary));
+
+        writeToCSV(fileName, content);
+    }
+
     // Compares actual and modelled usage and cost and writes results to CSV file 
-    public void writeModelAccuracyToCSV(String fileName) {
+    public void writeModelAccuracyToCSV(String fileName) throws IOException {
         String gasHeader, coolingElectricityHeader, gasTotal, coolingElectricityTotal;
         gasHeader = "Billing Start Month, Billing End Month, Actual Gas Usage (kWh), Modelled Gas Usage (kWh)," +
             "Actual Cost ($USD), Modelled Cost ($USD), Usage Error (%), Cost Error (%)";
@@ -505,7 +1234,7 @@ public class HomeEnergyModel {
     }
 
     // Compares this model (base) with new model and writes results to a CSV file along with the payback period
-    public void writeModelComparisonToCSV(String fileName, double additionalCost, HomeEnergyModel improvedHome) {
+    public void writeModelComparisonToCSV(String fileName, double additionalCost, HomeEnergyModel improvedHome) throws IOException {
         
         String gasHeader, coolingElectricityHeader, gasTotal, coolingElectricityTotal;
         gasHeader = "Billing Start Month, Billing End Month, Base Gas Usage (kWh), New Gas Usage (kWh)," +
@@ -657,45 +1386,129 @@ public class HomeEnergyModel {
         return content; 
     }
 
-    public static void main(String[] args) {
-
-        HomeEnergyModel model = null; // Model of house HVAC usage in existing state
-        HomeEnergyModel improvedVent = null;
-        HomeEnergyModel improvedRoof = null;
-        HomeEnergyModel improvedWindows = null; 
-        
+    // BATCH JOBS //
+
+    // Runs every job in specified job file, prints the time taken by each job and returns the number of failed jobs
+    // (a job file that cannot be read counts as one failure)
+    // Each line of a job file is one of:
+    //   MODEL, name, monthly data file, building components file, SHGCs file, SHG parameters file, gas bills file, cooling bills file, vent. factor (-1 for default)
+    //   USAGE, model, G or E, output file
+    //   BREAKDOWN, model, output file
+    //   ACCURACY, model, output file
+    //   COMPARISON, base model, improved model, additional cost ($USD), output file
+    //   CLIMATE_SWEEP, climate library file, output file, model 1, model 2, ...
+    //   PORTFOLIO, portfolio index file, SHG parameters file, portfolio store file (written; see PortfolioStore.readFromCSV)
+    //   PORTFOLIO_SWEEP, portfolio store file, climate library file, output file
+    // Blank lines and lines starting with '#' are ignored; models and climate libraries (by file name) are shared by
+    // all jobs run in the same JVM, so each climate library is only read once
+    public static int runJobFile(String fileName, Map<String, HomeEnergyModel> models, Map<String, ClimateLibrary> climateLibraries) {
+        int failures = 0;
         try {
-            model = new HomeEnergyModel("Monthly Data.csv", "Building Components.csv", "SHGCs.csv", "SHG Parameters.csv", "Gas Bills.csv", "Cooling Electricity Bills.csv", -1);
-            improvedVent = new HomeEnergyModel("Monthly Data.csv", "Building Components.csv", "SHGCs.csv", "SHG Parameters.csv", "Gas Bills.csv", "Cooling Electricity Bills.csv", 113.6);
-            improvedRoof = new HomeEnergyModel("Monthly Data.csv", "Building Components \u2014 Improved Roof Insulation.csv", "SHGCs.csv", "SHG Parameters.csv", "Gas Bills.csv", 
-                "Cooling Electricity Bills.csv", -1);
-            improvedWindows = new HomeEnergyModel("Monthly Data.csv", "Building Components \u2014 Improved Windows.csv", "SHGCs \u2014 Improved Windows.csv", "SHG Parameters.csv", "Gas Bills.csv", 
-                "Cooling Electricity Bills.csv", -1);
-        } catch (Exception e) {
+            CSVReader reader = new CSVReaderBuilder(new FileReader(fileName)).build();
+            String[] nextLine;
+            int lineNumber = 0;
+            while ((nextLine = reader.readNext()) != null) {
+                lineNumber++;
+                String jobType = nextLine[0].trim();
+                if (jobType.isEmpty() || jobType.startsWith("#")) continue;
+
+                long jobStart = System.nanoTime();
+                try {
+                    runJob(jobType, nextLine, models, climateLibraries);
+                } catch (Exception e) {
+                    System.out.println("Error: job on line " + lineNumber + " of " + fileName + " failed!");
+                    e.printStackTrace();
+                    failures++;
+                    continue;
+                }
+                double jobMillis = (System.nanoTime() - jobStart) / 1e6;
+                System.out.println(fileName + ":" + lineNumber + " " + String.join(",", nextLine) + " -> " + jobMillis + " ms");
+            }
+            reader.close();
+        } catch (IOException | CsvValidationException e) {
+            System.out.println("Error: job file " + fileName + " could not be read!");
             e.printStackTrace();
-            return; 
-        } 
+            failures++;
+        }
+        return failures;
+    }
 
-        // WRITE MODEL OUTPUT & COMPARISON TO CSV FILES
-        
-        // Modelled monthly usage
+    private static void runJob(String jobType, String[] job, Map<String, HomeEnergyModel> models, 
+            Map<String, ClimateLibrary> climateLibraries) throws IOException {
+        switch (jobType) {
+            case "MODEL":
+                models.put(job[1], new HomeEnergyModel(job[2], job[3], job[4], job[5], job[6], job[7], Double.parseDouble(job[8])));
+                break;
+            case "USAGE":
+                getJobModel(job[1], models).writeModelledUsageToCSV(job[2], job[3]);
+                break;
+            case "BREAKDOWN":
+                getJobModel(job[1], models).writeHeatTransferBreakdownToCSV(job[2]);
+                break;
+            case "ACCURACY":
+                getJobModel(job[1], models).writeModelAccuracyToCSV(job[2]);
+                break;
+            case "COMPARISON":
+                getJobModel(job[1], models).writeModelComparisonToCSV(job[4], Double.parseDouble(job[3]), getJobModel(job[2], models));
+                break;
+            case "CLIMATE_SWEEP":
+                Map<String, HomeEnergyModel> scenarios = new LinkedHashMap<>();
+                for (int i = 3; i < job.length; i++) {
+                    scenarios.put(job[i], getJobModel(job[i], models));
+                }
+                writeClimateSweepToCSV(job[2], getJobClimateLibrary(job[1], climateLibraries), scenarios);
+                break;
+            case "PORTFOLIO":
+                PortfolioStore.readFromCSV(job[1], job[2], job[3]);
+                break;
+            case "PORTFOLIO_SWEEP":
+                writePortfolioClimateSweepToCSV(job[3], PortfolioStore.open(job[1]), getJobClimateLibrary(job[2], climateLibraries));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown job type: " + jobType);
+        }
+    }
 
-        model.writeModelledUsageToCSV("G", "OUT Modelled Gas Usage.csv");
-        model.writeModelledUsageToCSV("E", "OUT Modelled Cooling Electricity Usage.csv");
-        
-        // Heat transfer component breakdown
+    private static HomeEnergyModel getJobModel(String name, Map<String, HomeEnergyModel> models) {
+        HomeEnergyModel model = models.get(name);
+        if (model == null) throw new IllegalArgumentException("Model '" + name + "' is not defined by a preceding MODEL job");
+        return model;
+    }
 
-        model.writeHeatTransferBreakdownToCSV("OUT Heat Transfer Breakdown.csv");
+    private static ClimateLibrary getJobClimateLibrary(String fileName, Map<String, ClimateLibrary> climateLibraries) throws IOException {
+        ClimateLibrary library = climateLibraries.get(fileName);
+        if (library == null) {
+            library = readClimateLibrary(fileName);
+            climateLibraries.put(fileName, library);
+        }
+        return library;
+    }
 
-        // Model accuracy
-        
-        model.writeModelAccuracyToCSV("OUT Model Accuracy.csv");
+    // Usage: java HomeEnergyModel [job file ...] (defaults to Jobs.csv)
+    // All job files are run in one JVM; see run.sh for running with a class-data-sharing archive
+    public static void main(String[] args) {
+        // Time from launch until main is entered (i.e., JVM startup and class loading); the launch time is passed
+        // by run.sh since querying the JVM's own start time would load JMX and add to the startup being measured
+        String launchTimeMillis = System.getProperty("launchTimeMillis");
+        if (launchTimeMillis != null) {
+            System.out.println("Startup -> " + (System.currentTimeMillis() - Long.parseLong(launchTimeMillis)) + " ms");
+        }
 
-        // Compare base model with models of home with different improvements
-        
-        model.writeModelComparisonToCSV("OUT Improved Ventilation Comparison.csv", 1000, improvedVent);
-        model.writeModelComparisonToCSV("OUT Improved Roof Insulation Comparison.csv", 5126.8, improvedRoof);
-        model.writeModelComparisonToCSV("OUT Improved Windows Comparison.csv", 45000, improvedWindows);
+        String[] jobFiles = args.length > 0 ? args : new String[] {"Jobs.csv"};
+        Map<String, HomeEnergyModel> models = new HashMap<>();
+        Map<String, ClimateLibrary> climateLibraries = new HashMap<>();
 
+        long start = System.nanoTime();
+        int failures = 0;
+        for (String jobFile : jobFiles) {
+            failures += runJobFile(jobFile, models, climateLibraries);
+        }
+        System.out.println("All jobs -> " + (System.nanoTime() - start) / 1e6 + " ms");
+
+        // Non-zero exit status so that batch drivers can tell that jobs failed
+        if (failures > 0) {
+            System.out.println("Error: " + failures + " job(s) failed!");
+            System.exit(1);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+#!/bin/sh
+# Compiles HomeEnergyModel into a JAR and runs the specified job files (default: Jobs.csv) in one JVM.
+# The first run is a training run which records the loaded classes into an AppCDS archive; later runs
+# map the archive instead of loading and verifying those classes, which cuts JVM startup time.
+# OpenCSV and its dependencies are expected as JARs in lib/ (override with LIB_DIR).
+# Requires JDK 13+ (dynamic AppCDS archives).
+# Job files, and the paths inside them, are resolved against the current directory (not this script's),
+# so run it from the directory holding the job's CSV files (e.g., ./run.sh from this directory for Jobs.csv).
+
+SCRIPT_DIR=$(cd "$(dirname "$0")" && pwd) || exit 1
+
+LIB_DIR=${LIB_DIR:-$SCRIPT_DIR/lib}
+BUILD_DIR=$SCRIPT_DIR/build
+JAR=$BUILD_DIR/home-energy-model.jar
+ARCHIVE=$BUILD_DIR/home-energy-model.jsa
+
+# CDS requires the class path to consist of JAR files listed explicitly (no wildcards or directories)
+LIB_CP=$(ls "$LIB_DIR"/*.jar 2>/dev/null | tr '\n' ':')
+CP=$JAR:$LIB_CP
+
+if [ ! -f "$JAR" ] || [ "$SCRIPT_DIR/HomeEnergyModel.java" -nt "$JAR" ]; then
+    rm -rf "$BUILD_DIR/classes" "$ARCHIVE"
+    mkdir -p "$BUILD_DIR/classes"
+    javac -encoding UTF-8 -cp "$LIB_CP" -d "$BUILD_DIR/classes" "$SCRIPT_DIR/HomeEnergyModel.java" || exit 1
+    jar cf "$JAR" -C "$BUILD_DIR/classes" . || exit 1
+fi
+
+# Launch time (ms) for the reported startup time; falls back to whole seconds where date has no %N
+LAUNCH_MS=$(date +%s%3N)
+case $LAUNCH_MS in
+    *[!0-9]*) LAUNCH_MS=$(($(date +%s) * 1000)) ;;
+esac
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "Training run: creating class-data-sharing archive $ARCHIVE"
+    exec java -XX:ArchiveClassesAtExit="$ARCHIVE" -DlaunchTimeMillis="$LAUNCH_MS" $JAVA_OPTS -cp "$CP" HomeEnergyModel "$@"
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -DlaunchTimeMillis="$LAUNCH_MS" $JAVA_OPTS -cp "$CP" HomeEnergyModel "$@"